@@ -0,0 +1,680 @@
+package com.example.puzzle_solver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Полный обход пространства состояний в ширину с хранением слоёв на диске.
+ *
+ * Состояния хранятся в упакованном виде (см. {@link StateCodec}). Каждый слой
+ * BFS записывается в отдельный сжатый файл, отсортированный по состоянию.
+ * Раскрытие слоя идёт параллельно; потомки накапливаются в буфере
+ * ограниченного размера, который при заполнении сортируется и сбрасывается на
+ * диск отдельным прогоном в фоне, пока раскрывается следующая пачка. Затем
+ * прогоны сливаются потоково (не больше {@value #MERGE_FAN_IN} файлов за раз,
+ * при большем числе — в несколько проходов): одинаковые состояния
+ * склеиваются, а уже посещённые отбрасываются сверкой с одним накопительным
+ * файлом всех пройденных слоёв.
+ *
+ * Вместе с каждым состоянием хранится число кратчайших путей до него из
+ * стартового, что позволяет посчитать количество оптимальных решений.
+ *
+ * После прямого обхода выполняются два обратных прохода по тем же правилам
+ * (см. {@link State#getPreviousStates()}):
+ * <ul>
+ * <li>от всех достижимых целевых состояний — чтобы найти решаемые позиции и
+ * расстояние от каждой из них до ближайшей цели;</li>
+ * <li>от целевых состояний на глубине оптимального решения — чтобы оставить в
+ * каждом слое только состояния, лежащие на оптимальных путях. По ним
+ * {@link #enumerateOptimalSolutions(int)} перечисляет сами решения.</li>
+ * </ul>
+ *
+ * Файлы в рабочем каталоге:
+ * <ul>
+ * <li>{@code layer-NNNNN.bin.gz} — состояния на расстоянии N от старта;</li>
+ * <li>{@code reachable.bin.gz} — все достижимые состояния;</li>
+ * <li>{@code solvable-NNNNN.bin.gz} — решаемые состояния на расстоянии N до
+ * ближайшей цели, {@code solvable.bin.gz} — все решаемые состояния;</li>
+ * <li>{@code optimal-NNNNN.bin.gz} — состояния слоя N, лежащие на
+ * оптимальных путях.</li>
+ * </ul>
+ */
+public class ExternalBFS {
+    private static final int MERGE_FAN_IN = 64;
+    private static final int MAX_PARALLEL_MERGES = 4;
+    private static final int MAX_PARENTS_PER_TASK = 1024;
+
+    private static final String REACHABLE = "reachable.bin.gz";
+    private static final String REACHABLE_NEXT = "reachable-next.bin.gz";
+    private static final String SOLVABLE = "solvable.bin.gz";
+    private static final String SOLVABLE_NEXT = "solvable-next.bin.gz";
+    private static final Pattern WORK_FILE = Pattern.compile(
+            "(layer|goals|optimal|solvable|reachable|run)(-[0-9a-z]+)?\\.bin\\.gz");
+
+    private final State startState;
+    private final StateCodec codec;
+    private final Path workDir;
+    private final int threads;
+    private final int forwardBranch;
+    private final int backwardBranch;
+    private final int bufferCapacity;
+
+    private ForkJoinPool pool;
+    private ExecutorService flusher;
+    private PackedBuffer active;
+    private PackedBuffer spare;
+    private int runCounter;
+    private Result result;
+
+    /**
+     * Создаёт обход.
+     *
+     * Память под состояния ограничена maxBufferedStates записями: два буфера
+     * потомков по трети (один заполняется, второй в это время сортируется и
+     * пишется на диск) и результаты текущей пачки раскрытия. Одна запись
+     * занимает примерно длину упакованного состояния + 16 байт. Меньше
+     * 3·n(n−1)·V записей (n — число пробирок, V — вместимость) задать нельзя:
+     * столько может дать одна позиция при обратном проходе.
+     *
+     * @param startState        стартовое состояние
+     * @param workDir           каталог для файлов слоёв и временных прогонов
+     * @param threads           число потоков для раскрытия и сортировки
+     * @param maxBufferedStates сколько упакованных состояний держать в памяти
+     */
+    public ExternalBFS(State startState, Path workDir, int threads, int maxBufferedStates) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        if (maxBufferedStates < 1) {
+            throw new IllegalArgumentException("maxBufferedStates must be positive");
+        }
+        this.startState = startState;
+        this.codec = new StateCodec(startState);
+        this.workDir = workDir;
+        this.threads = threads;
+
+        int tubes = codec.tubeCount();
+        this.forwardBranch = Math.max(1, tubes * (tubes - 1));
+        this.backwardBranch = forwardBranch * Math.max(1, codec.maxCapacity());
+        int maxRecords = (Integer.MAX_VALUE - 8) / Math.max(1, codec.recordLength());
+        this.bufferCapacity = Math.min(maxRecords, Math.max(maxBufferedStates / 3, backwardBranch));
+    }
+
+    /**
+     * Возвращает путь к файлу слоя заданной глубины.
+     *
+     * @param depth расстояние от стартового состояния
+     * @return путь к файлу слоя
+     */
+    public Path layerFile(int depth) {
+        return workDir.resolve(String.format("layer-%05d.bin.gz", depth));
+    }
+
+    private Path goalsFile(int depth) {
+        return workDir.resolve(String.format("goals-%05d.bin.gz", depth));
+    }
+
+    private Path optimalFile(int depth) {
+        return workDir.resolve(String.format("optimal-%05d.bin.gz", depth));
+    }
+
+    private Path solvableFile(int distance) {
+        return workDir.resolve(String.format("solvable-%05d.bin.gz", distance));
+    }
+
+    private Path nextRunFile() {
+        return workDir.resolve(String.format("run-%08d.bin.gz", runCounter++));
+    }
+
+    /**
+     * Выполняет обход всего достижимого пространства состояний и обратные
+     * проходы. Файлы прошлых запусков в рабочем каталоге удаляются, новые
+     * файлы слоёв остаются после завершения.
+     *
+     * @return сводка по пространству состояний
+     */
+    public Result run() throws IOException {
+        Files.createDirectories(workDir);
+        cleanWorkDir();
+
+        result = null;
+        runCounter = 0;
+        pool = new ForkJoinPool(threads);
+        flusher = Executors.newSingleThreadExecutor();
+        active = new PackedBuffer(codec.recordLength(), bufferCapacity);
+        spare = new PackedBuffer(codec.recordLength(), bufferCapacity);
+        try {
+            List<Long> layerSizes = new ArrayList<>();
+            try (RunFile.Writer writer = new RunFile.Writer(layerFile(0))) {
+                writer.write(codec.encode(startState), 1);
+            }
+            layerSizes.add(1L);
+
+            int goalDepth = -1;
+            long goalStates = 0;
+            long optimalSolutions = 0;
+            List<Path> goalFiles = new ArrayList<>();
+            Path reachable = layerFile(0);
+
+            for (int depth = 0;; depth++) {
+                Expansion expansion = expand(layerFile(depth), State::getNextStates, forwardBranch,
+                        goalsFile(depth));
+                if (expansion.goalStates > 0) {
+                    goalFiles.add(goalsFile(depth));
+                    if (goalDepth < 0) {
+                        goalDepth = depth;
+                        goalStates = expansion.goalStates;
+                        optimalSolutions = expansion.goalPaths;
+                    }
+                }
+
+                long size = mergeLayer(expansion.runs, null, reachable, workDir.resolve(REACHABLE_NEXT),
+                        layerFile(depth + 1));
+                reachable = Files.move(workDir.resolve(REACHABLE_NEXT), workDir.resolve(REACHABLE),
+                        StandardCopyOption.REPLACE_EXISTING);
+                if (size == 0) {
+                    Files.deleteIfExists(layerFile(depth + 1));
+                    break;
+                }
+                layerSizes.add(size);
+            }
+
+            if (goalDepth >= 0) {
+                buildOptimalLayers(goalDepth);
+            }
+            List<Long> solvableSizes = searchBackward(goalFiles, reachable);
+
+            result = new Result(layerSizes, goalDepth, goalStates, optimalSolutions, solvableSizes);
+            return result;
+        } finally {
+            pool.shutdownNow();
+            flusher.shutdownNow();
+            pool = null;
+            flusher = null;
+            active = null;
+            spare = null;
+        }
+    }
+
+    /**
+     * Перечисляет оптимальные решения по файлам слоёв, построенным в
+     * {@link #run()}. В память загружаются только состояния, лежащие на
+     * оптимальных путях.
+     *
+     * @param limit наибольшее число решений в ответе
+     * @return решения в лексикографическом порядке ходов; пустой список, если
+     *         решения нет
+     */
+    public List<List<Move>> enumerateOptimalSolutions(int limit) throws IOException {
+        if (result == null) {
+            throw new IllegalStateException("run() has not been called");
+        }
+        List<List<Move>> solutions = new ArrayList<>();
+        if (result.getGoalDepth() < 0 || limit <= 0) {
+            return solutions;
+        }
+
+        List<PackedBuffer> layers = new ArrayList<>();
+        for (int depth = 0; depth <= result.getGoalDepth(); depth++) {
+            PackedBuffer layer = new PackedBuffer(codec.recordLength(), 16);
+            try (RunFile.Reader reader = new RunFile.Reader(optimalFile(depth), codec.recordLength())) {
+                while (reader.hasCurrent()) {
+                    layer.add(reader.key(), reader.count());
+                    reader.advance();
+                }
+            }
+            layers.add(layer);
+        }
+
+        collectSolutions(startState, layers, new ArrayList<>(), solutions, limit);
+        return solutions;
+    }
+
+    private void collectSolutions(State state, List<PackedBuffer> layers, List<Move> path,
+            List<List<Move>> solutions, int limit) {
+        if (path.size() == layers.size() - 1) {
+            solutions.add(new ArrayList<>(path));
+            return;
+        }
+        PackedBuffer nextLayer = layers.get(path.size() + 1);
+        for (Move move : state.getMoves()) {
+            State next = state.applyMove(move);
+            if (!nextLayer.containsSorted(codec.encode(next))) {
+                continue;
+            }
+            path.add(move);
+            collectSolutions(next, layers, path, solutions, limit);
+            path.remove(path.size() - 1);
+            if (solutions.size() >= limit) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Оставляет в слоях 0..goalDepth только состояния, из которых цель
+     * достигается за оставшееся число ходов.
+     */
+    private void buildOptimalLayers(int goalDepth) throws IOException {
+        Files.copy(goalsFile(goalDepth), optimalFile(goalDepth));
+        for (int depth = goalDepth - 1; depth >= 0; depth--) {
+            Expansion expansion = expand(optimalFile(depth + 1), State::getPreviousStates, backwardBranch, null);
+            mergeLayer(expansion.runs, layerFile(depth), null, null, optimalFile(depth));
+        }
+    }
+
+    /**
+     * Обратный обход от всех достижимых целевых состояний в пределах
+     * достижимых. Файлы целей при этом удаляются.
+     *
+     * @return размеры слоёв; индекс — расстояние до ближайшей цели
+     */
+    private List<Long> searchBackward(List<Path> goalFiles, Path reachable) throws IOException {
+        List<Long> sizes = new ArrayList<>();
+        if (goalFiles.isEmpty()) {
+            return sizes;
+        }
+
+        sizes.add(mergeLayer(goalFiles, null, null, null, solvableFile(0)));
+        Path solvable = solvableFile(0);
+
+        for (int distance = 0;; distance++) {
+            Expansion expansion = expand(solvableFile(distance), State::getPreviousStates, backwardBranch, null);
+            long size = mergeLayer(expansion.runs, reachable, solvable, workDir.resolve(SOLVABLE_NEXT),
+                    solvableFile(distance + 1));
+            solvable = Files.move(workDir.resolve(SOLVABLE_NEXT), workDir.resolve(SOLVABLE),
+                    StandardCopyOption.REPLACE_EXISTING);
+            if (size == 0) {
+                Files.deleteIfExists(solvableFile(distance + 1));
+                break;
+            }
+            sizes.add(size);
+        }
+        return sizes;
+    }
+
+    /**
+     * Раскрывает все состояния файла и сбрасывает соседей в отсортированные
+     * прогоны. Размер пачки подбирается так, чтобы её результаты поместились
+     * в один буфер.
+     *
+     * @param frontier   файл раскрываемых состояний
+     * @param neighbours правило получения соседей
+     * @param maxBranch  наибольшее число соседей одного состояния
+     * @param goalsOut   куда записать встреченные целевые состояния или null,
+     *                   если цели искать не нужно
+     */
+    private Expansion expand(Path frontier, Function<State, List<State>> neighbours, int maxBranch,
+            Path goalsOut) throws IOException {
+        int parentsPerTask = clamp(bufferCapacity / ((long) threads * maxBranch), MAX_PARENTS_PER_TASK);
+        int tasksPerRound = clamp(bufferCapacity / ((long) parentsPerTask * maxBranch), threads);
+
+        Expansion expansion = new Expansion();
+        Future<?> pendingFlush = null;
+        RunFile.Writer goalsWriter = null;
+
+        try (RunFile.Reader reader = new RunFile.Reader(frontier, codec.recordLength())) {
+            while (reader.hasCurrent()) {
+                List<Callable<TaskResult>> tasks = new ArrayList<>(tasksPerRound);
+                for (int t = 0; t < tasksPerRound && reader.hasCurrent(); t++) {
+                    PackedBuffer parents = new PackedBuffer(codec.recordLength(), parentsPerTask);
+                    while (parents.size() < parentsPerTask && reader.hasCurrent()) {
+                        parents.add(reader.key(), reader.count());
+                        reader.advance();
+                    }
+                    tasks.add(() -> expandParents(parents, neighbours, goalsOut != null));
+                }
+
+                for (Future<TaskResult> future : pool.invokeAll(tasks)) {
+                    TaskResult task = await(future);
+                    if (active.remaining() < task.children.size()) {
+                        pendingFlush = flush(expansion, pendingFlush);
+                    }
+                    active.addAll(task.children);
+
+                    if (task.goals != null) {
+                        if (goalsWriter == null) {
+                            goalsWriter = new RunFile.Writer(goalsOut);
+                        }
+                        for (int i = 0; i < task.goals.size(); i++) {
+                            goalsWriter.write(task.goals.key(i), 1);
+                        }
+                        expansion.goalStates += task.goals.size();
+                        expansion.goalPaths = RunFile.addCounts(expansion.goalPaths, task.goalPaths);
+                    }
+                }
+            }
+        } finally {
+            if (goalsWriter != null) {
+                goalsWriter.close();
+            }
+        }
+
+        if (!active.isEmpty()) {
+            pendingFlush = flush(expansion, pendingFlush);
+        }
+        await(pendingFlush);
+        return expansion;
+    }
+
+    private static int clamp(long value, int max) {
+        return (int) Math.max(1, Math.min(value, max));
+    }
+
+    /**
+     * Раскрывает пачку родителей, передавая потомкам число путей родителя.
+     */
+    private TaskResult expandParents(PackedBuffer parents, Function<State, List<State>> neighbours,
+            boolean detectGoals) {
+        TaskResult result = new TaskResult(codec.recordLength(), parents.size());
+        for (int p = 0; p < parents.size(); p++) {
+            byte[] key = parents.key(p);
+            long count = parents.count(p);
+            State state = codec.decode(key);
+            if (detectGoals && state.isGoal()) {
+                if (result.goals == null) {
+                    result.goals = new PackedBuffer(codec.recordLength(), 1);
+                }
+                result.goals.add(key, count);
+                result.goalPaths = RunFile.addCounts(result.goalPaths, count);
+            }
+            for (State next : neighbours.apply(state)) {
+                result.children.add(codec.encode(next), count);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Отдаёт заполненный буфер на сортировку и запись в фоне и переключается
+     * на второй буфер, дождавшись окончания предыдущей записи.
+     */
+    private Future<?> flush(Expansion expansion, Future<?> pendingFlush) throws IOException {
+        await(pendingFlush);
+        Path run = nextRunFile();
+        expansion.runs.add(run);
+
+        PackedBuffer full = active;
+        active = spare;
+        spare = full;
+        return flusher.submit(() -> {
+            try {
+                full.writeSorted(run, pool);
+            } finally {
+                full.clear();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Сливает прогоны в файл нового слоя: склеивает одинаковые состояния,
+     * оставляет только присутствующие в allowed (если задан) и отбрасывает
+     * присутствующие в visited (если задан). Если задан visitedOut, туда
+     * записывается объединение visited и нового слоя. Прогоны удаляются.
+     *
+     * @return число состояний в новом слое
+     */
+    private long mergeLayer(List<Path> runs, Path allowed, Path visited, Path visitedOut, Path out)
+            throws IOException {
+        List<Path> merged = reduceRuns(runs);
+        List<Closeable> opened = new ArrayList<>();
+        try {
+            RunFile.Merger merger = new RunFile.Merger(merged, codec.recordLength());
+            opened.add(merger);
+            RunFile.Reader allowedReader = null;
+            if (allowed != null) {
+                allowedReader = new RunFile.Reader(allowed, codec.recordLength());
+                opened.add(allowedReader);
+            }
+            RunFile.Reader visitedReader = null;
+            if (visited != null) {
+                visitedReader = new RunFile.Reader(visited, codec.recordLength());
+                opened.add(visitedReader);
+            }
+            RunFile.Writer writer = new RunFile.Writer(out);
+            opened.add(writer);
+            RunFile.Writer visitedWriter = null;
+            if (visitedOut != null) {
+                visitedWriter = new RunFile.Writer(visitedOut);
+                opened.add(visitedWriter);
+            }
+
+            long written = 0;
+            while (merger.next()) {
+                byte[] key = merger.key();
+                if (visitedReader != null) {
+                    copyWhileLess(visitedReader, key, visitedWriter);
+                    if (visitedReader.hasCurrent() && Arrays.equals(visitedReader.key(), key)) {
+                        continue;
+                    }
+                }
+                if (allowedReader != null && !allowedReader.seek(key)) {
+                    continue;
+                }
+                writer.write(key, merger.count());
+                if (visitedWriter != null) {
+                    visitedWriter.write(key, merger.count());
+                }
+                written++;
+            }
+            if (visitedReader != null) {
+                copyWhileLess(visitedReader, null, visitedWriter);
+            }
+            return written;
+        } finally {
+            try {
+                RunFile.closeAll(opened);
+            } finally {
+                for (Path run : merged) {
+                    Files.deleteIfExists(run);
+                }
+            }
+        }
+    }
+
+    /**
+     * Продвигает reader до первой записи не меньше limit (до конца, если limit
+     * равен null), копируя пропущенные записи в writer, если он задан.
+     */
+    private static void copyWhileLess(RunFile.Reader reader, byte[] limit, RunFile.Writer writer)
+            throws IOException {
+        while (reader.hasCurrent() && (limit == null || Arrays.compareUnsigned(reader.key(), limit) < 0)) {
+            if (writer != null) {
+                writer.write(reader.key(), reader.count());
+            }
+            reader.advance();
+        }
+    }
+
+    /**
+     * Сливает прогоны группами по {@value #MERGE_FAN_IN} в промежуточные, пока
+     * их не останется столько, чтобы слить за один раз. Одновременно идёт не
+     * больше {@value #MAX_PARALLEL_MERGES} слияний, чтобы ограничить число
+     * открытых файлов и память под буферы распаковки.
+     */
+    private List<Path> reduceRuns(List<Path> runs) throws IOException {
+        while (runs.size() > MERGE_FAN_IN) {
+            List<Callable<Path>> tasks = new ArrayList<>();
+            for (int from = 0; from < runs.size(); from += MERGE_FAN_IN) {
+                List<Path> group = new ArrayList<>(runs.subList(from, Math.min(from + MERGE_FAN_IN, runs.size())));
+                Path out = nextRunFile();
+                tasks.add(() -> mergeRuns(group, out));
+            }
+
+            List<Path> next = new ArrayList<>();
+            int parallel = Math.min(threads, MAX_PARALLEL_MERGES);
+            for (int from = 0; from < tasks.size(); from += parallel) {
+                List<Callable<Path>> batch = tasks.subList(from, Math.min(from + parallel, tasks.size()));
+                for (Future<Path> future : pool.invokeAll(batch)) {
+                    next.add(await(future));
+                }
+            }
+            runs = next;
+        }
+        return runs;
+    }
+
+    private Path mergeRuns(List<Path> group, Path out) throws IOException {
+        try (RunFile.Merger merger = new RunFile.Merger(group, codec.recordLength());
+                RunFile.Writer writer = new RunFile.Writer(out)) {
+            while (merger.next()) {
+                writer.write(merger.key(), merger.count());
+            }
+        }
+        for (Path run : group) {
+            Files.delete(run);
+        }
+        return out;
+    }
+
+    /**
+     * Удаляет из рабочего каталога файлы, оставшиеся от прошлых запусков.
+     */
+    private void cleanWorkDir() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(workDir)) {
+            for (Path file : files) {
+                if (WORK_FILE.matcher(file.getFileName().toString()).matches()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Search failed", cause);
+        }
+    }
+
+    /** Итоги раскрытия одного слоя. */
+    private static final class Expansion {
+        final List<Path> runs = new ArrayList<>();
+        long goalStates;
+        long goalPaths;
+    }
+
+    /** Итоги раскрытия одной пачки родителей. */
+    private static final class TaskResult {
+        final PackedBuffer children;
+        PackedBuffer goals;
+        long goalPaths;
+
+        TaskResult(int recordLength, int parents) {
+            this.children = new PackedBuffer(recordLength, parents * 4);
+        }
+    }
+
+    /**
+     * Сводка по пространству состояний уровня.
+     */
+    public static final class Result {
+        private final List<Long> layerSizes;
+        private final int goalDepth;
+        private final long goalStates;
+        private final long optimalSolutions;
+        private final List<Long> solvableLayerSizes;
+
+        Result(List<Long> layerSizes, int goalDepth, long goalStates, long optimalSolutions,
+                List<Long> solvableLayerSizes) {
+            this.layerSizes = Collections.unmodifiableList(new ArrayList<>(layerSizes));
+            this.goalDepth = goalDepth;
+            this.goalStates = goalStates;
+            this.optimalSolutions = optimalSolutions;
+            this.solvableLayerSizes = Collections.unmodifiableList(new ArrayList<>(solvableLayerSizes));
+        }
+
+        /** @return размеры слоёв; индекс — расстояние от стартового состояния */
+        public List<Long> getLayerSizes() {
+            return layerSizes;
+        }
+
+        /** @return общее число достижимых состояний */
+        public long getReachableStates() {
+            return sum(layerSizes);
+        }
+
+        /** @return наибольшее расстояние от стартового состояния до достижимого */
+        public int getMaxDepth() {
+            return layerSizes.size() - 1;
+        }
+
+        /** @return длина оптимального решения или -1, если решения нет */
+        public int getGoalDepth() {
+            return goalDepth;
+        }
+
+        /** @return число различных целевых состояний на глубине оптимального решения */
+        public long getGoalStates() {
+            return goalStates;
+        }
+
+        /**
+         * @return число различных оптимальных решений (последовательностей
+         *         ходов); при переполнении — Long.MAX_VALUE
+         */
+        public long getOptimalSolutions() {
+            return optimalSolutions;
+        }
+
+        /**
+         * @return размеры слоёв решаемых состояний; индекс — расстояние до
+         *         ближайшей цели
+         */
+        public List<Long> getSolvableLayerSizes() {
+            return solvableLayerSizes;
+        }
+
+        /** @return число достижимых состояний, из которых достижима цель */
+        public long getSolvableStates() {
+            return sum(solvableLayerSizes);
+        }
+
+        /**
+         * @return наибольшее расстояние до ближайшей цели среди решаемых
+         *         состояний или -1, если решаемых нет
+         */
+        public int getMaxDistanceToGoal() {
+            return solvableLayerSizes.size() - 1;
+        }
+
+        private static long sum(List<Long> sizes) {
+            long total = 0;
+            for (long size : sizes) {
+                total += size;
+            }
+            return total;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.puzzle_solver;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,11 +12,24 @@ import java.util.List;
 public class Main {
 
     private static final int CAPACITY = 4;
+    private static final int BFS_BUFFERED_STATES = 4_000_000;
+    private static final int BFS_PRINTED_SOLUTIONS = 10;
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         List<Tube> tubes = createTubes();
 
         State startState = new State(tubes);
+
+        // Полный анализ уровня: mvn exec:java -Dexec.args="--bfs <каталог>"
+        if (args.length > 0) {
+            if (args.length != 2 || !args[0].equals("--bfs")) {
+                System.err.println("Usage: Main [--bfs <work-dir>]");
+                System.exit(2);
+            }
+            analyze(startState, Paths.get(args[1]));
+            return;
+        }
+
         Heuristic heuristic = new Heuristic();
         IDAStarSolver solver = new IDAStarSolver(startState, heuristic);
 
@@ -70,6 +86,34 @@ public class Main {
         return tubes;
     }
 
+    private static void analyze(State startState, Path workDir) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExternalBFS bfs = new ExternalBFS(startState, workDir, threads, BFS_BUFFERED_STATES);
+        ExternalBFS.Result result = bfs.run();
+
+        List<Long> layerSizes = result.getLayerSizes();
+        for (int depth = 0; depth < layerSizes.size(); depth++) {
+            System.out.printf("Depth %3d: %d%n", depth, layerSizes.get(depth));
+        }
+        System.out.println("Reachable states: " + result.getReachableStates());
+        System.out.println("Max depth: " + result.getMaxDepth());
+        if (result.getGoalDepth() < 0) {
+            System.out.println("No solution found.");
+        } else {
+            System.out.println("Optimal solution length: " + result.getGoalDepth());
+            System.out.println("Goal states at optimal depth: " + result.getGoalStates());
+            System.out.println("Optimal solutions: " + result.getOptimalSolutions());
+        }
+        System.out.println("Solvable states: " + result.getSolvableStates());
+        System.out.println("Max distance to goal: " + result.getMaxDistanceToGoal());
+
+        List<List<Move>> solutions = bfs.enumerateOptimalSolutions(BFS_PRINTED_SOLUTIONS);
+        for (int i = 0; i < solutions.size(); i++) {
+            System.out.println("\nOptimal solution " + (i + 1) + ":");
+            printSolution(solutions.get(i));
+        }
+    }
+
     private static void printSolution(List<Move> solution) {
         int count = 0;
         for (Move move : solution) {
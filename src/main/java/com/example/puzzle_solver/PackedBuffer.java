@@ -0,0 +1,237 @@
+package com.example.puzzle_solver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Буфер упакованных состояний в памяти: все ключи лежат подряд в одном
+ * массиве байт, числа путей — в массиве long. На одну запись приходится
+ * длина ключа + 8 байт, а при сортировке ещё 8 байт на индексы.
+ */
+final class PackedBuffer {
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+    private final int recordLength;
+    private byte[] keys;
+    private long[] counts;
+    private int size;
+
+    private int[] order;
+    private int[] scratch;
+
+    /**
+     * Создаёт буфер.
+     *
+     * @param recordLength длина упакованного состояния
+     * @param capacity     начальная вместимость в записях
+     */
+    PackedBuffer(int recordLength, int capacity) {
+        this.recordLength = recordLength;
+        this.keys = new byte[Math.multiplyExact(recordLength, Math.max(1, capacity))];
+        this.counts = new long[Math.max(1, capacity)];
+    }
+
+    /** @return число записей */
+    int size() {
+        return size;
+    }
+
+    /** @return true, если записей нет */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** @return сколько записей ещё поместится без расширения */
+    int remaining() {
+        return counts.length - size;
+    }
+
+    /** @return копия ключа записи с заданным номером */
+    byte[] key(int index) {
+        int offset = index * recordLength;
+        return Arrays.copyOfRange(keys, offset, offset + recordLength);
+    }
+
+    /** @return число путей записи с заданным номером */
+    long count(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Добавляет запись, при необходимости расширяя буфер.
+     */
+    void add(byte[] key, long count) {
+        ensureCapacity(size + 1);
+        System.arraycopy(key, 0, keys, size * recordLength, recordLength);
+        counts[size] = count;
+        size++;
+    }
+
+    /**
+     * Добавляет все записи другого буфера, при необходимости расширяя этот.
+     */
+    void addAll(PackedBuffer other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.keys, 0, keys, size * recordLength, other.size * recordLength);
+        System.arraycopy(other.counts, 0, counts, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Удаляет все записи, сохраняя выделенную память.
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Ищет ключ двоичным поиском. Записи должны быть отсортированы.
+     *
+     * @return true, если ключ есть в буфере
+     */
+    boolean containsSorted(byte[] key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = mid * recordLength;
+            int cmp = Arrays.compareUnsigned(keys, offset, offset + recordLength, key, 0, recordLength);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Сортирует записи (параллельно в заданном пуле), склеивает одинаковые
+     * состояния, суммируя число путей, и записывает результат в файл.
+     * Сами записи буфера не переставляются — сортируется массив индексов.
+     *
+     * @param path файл для записи
+     * @param pool пул для параллельной сортировки
+     * @return число записанных (уникальных) состояний
+     */
+    long writeSorted(Path path, ForkJoinPool pool) throws IOException {
+        if (order == null || order.length < size) {
+            order = new int[counts.length];
+            scratch = new int[counts.length];
+        }
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        pool.invoke(new SortTask(0, size));
+
+        long written = 0;
+        try (RunFile.Writer writer = new RunFile.Writer(path)) {
+            int pending = -1;
+            long pendingCount = 0;
+            for (int i = 0; i < size; i++) {
+                int index = order[i];
+                if (pending >= 0 && compare(pending, index) == 0) {
+                    pendingCount = RunFile.addCounts(pendingCount, counts[index]);
+                    continue;
+                }
+                if (pending >= 0) {
+                    writer.write(keys, pending * recordLength, recordLength, pendingCount);
+                    written++;
+                }
+                pending = index;
+                pendingCount = counts[index];
+            }
+            if (pending >= 0) {
+                writer.write(keys, pending * recordLength, recordLength, pendingCount);
+                written++;
+            }
+        }
+        return written;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= counts.length) {
+            return;
+        }
+        int capacity = Math.max(required, counts.length * 2);
+        keys = Arrays.copyOf(keys, Math.multiplyExact(capacity, recordLength));
+        counts = Arrays.copyOf(counts, capacity);
+    }
+
+    private int compare(int a, int b) {
+        int offsetA = a * recordLength;
+        int offsetB = b * recordLength;
+        return Arrays.compareUnsigned(keys, offsetA, offsetA + recordLength,
+                keys, offsetB, offsetB + recordLength);
+    }
+
+    /**
+     * Сортировка слиянием массива индексов; большие половины сортируются
+     * параллельно.
+     */
+    private final class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        SortTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            sort(from, to, to - from > PARALLEL_SORT_THRESHOLD);
+        }
+
+        private void sort(int lo, int hi, boolean parallel) {
+            if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+                insertionSort(lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (parallel) {
+                invokeAll(new SortTask(lo, mid), new SortTask(mid, hi));
+            } else {
+                sort(lo, mid, false);
+                sort(mid, hi, false);
+            }
+            merge(lo, mid, hi);
+        }
+
+        private void insertionSort(int lo, int hi) {
+            for (int i = lo + 1; i < hi; i++) {
+                int value = order[i];
+                int j = i - 1;
+                while (j >= lo && compare(order[j], value) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = value;
+            }
+        }
+
+        private void merge(int lo, int mid, int hi) {
+            if (compare(order[mid - 1], order[mid]) <= 0) {
+                return; // половины уже идут по порядку
+            }
+            System.arraycopy(order, lo, scratch, lo, hi - lo);
+            int left = lo;
+            int right = mid;
+            for (int k = lo; k < hi; k++) {
+                if (right >= hi || (left < mid && compare(scratch[left], scratch[right]) <= 0)) {
+                    order[k] = scratch[left++];
+                } else {
+                    order[k] = scratch[right++];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.puzzle_solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Файл со сжатой отсортированной последовательностью упакованных состояний.
+ *
+ * Формат: поток GZIP из записей вида [состояние][число путей], где состояние —
+ * массив байт фиксированной длины (см. {@link StateCodec}), а число путей —
+ * long. Записи упорядочены по возрастанию состояния (побайтово, без знака) и
+ * не повторяются.
+ */
+final class RunFile {
+    private static final int BUFFER_SIZE = 1 << 15;
+
+    private RunFile() {
+    }
+
+    /**
+     * Складывает числа путей; при переполнении возвращает Long.MAX_VALUE.
+     */
+    static long addCounts(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * Закрывает все ресурсы, даже если некоторые из них бросают исключение.
+     */
+    static void closeAll(List<? extends Closeable> opened) throws IOException {
+        IOException failure = null;
+        for (Closeable closeable : opened) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable, Throwable failure) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Последовательная запись в файл. Порядок записей обеспечивает вызывающий.
+     */
+    static final class Writer implements Closeable {
+        private final DataOutputStream out;
+
+        Writer(Path path) throws IOException {
+            OutputStream raw = Files.newOutputStream(path);
+            try {
+                this.out = new DataOutputStream(new BufferedOutputStream(
+                        new GZIPOutputStream(raw, BUFFER_SIZE), BUFFER_SIZE));
+            } catch (IOException | RuntimeException e) {
+                closeQuietly(raw, e);
+                throw e;
+            }
+        }
+
+        void write(byte[] key, long count) throws IOException {
+            write(key, 0, key.length, count);
+        }
+
+        void write(byte[] keys, int offset, int length, long count) throws IOException {
+            out.write(keys, offset, length);
+            out.writeLong(count);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Последовательное чтение файла с возможностью заглянуть в текущую запись.
+     */
+    static final class Reader implements Closeable {
+        private final DataInputStream in;
+        private final int recordLength;
+        private byte[] key;
+        private long count;
+
+        Reader(Path path, int recordLength) throws IOException {
+            this.recordLength = recordLength;
+            InputStream raw = Files.newInputStream(path);
+            try {
+                this.in = new DataInputStream(new BufferedInputStream(
+                        new GZIPInputStream(raw, BUFFER_SIZE), BUFFER_SIZE));
+            } catch (IOException | RuntimeException e) {
+                closeQuietly(raw, e);
+                throw e;
+            }
+            try {
+                advance();
+            } catch (IOException | RuntimeException e) {
+                closeQuietly(in, e);
+                throw e;
+            }
+        }
+
+        /** @return true, если текущая запись есть */
+        boolean hasCurrent() {
+            return key != null;
+        }
+
+        /** @return упакованное состояние текущей записи */
+        byte[] key() {
+            return key;
+        }
+
+        /** @return число путей текущей записи */
+        long count() {
+            return count;
+        }
+
+        /**
+         * Переходит к следующей записи.
+         */
+        void advance() throws IOException {
+            int first = in.read();
+            if (first < 0) {
+                key = null;
+                return;
+            }
+            byte[] next = new byte[recordLength];
+            next[0] = (byte) first;
+            try {
+                in.readFully(next, 1, recordLength - 1);
+                count = in.readLong();
+            } catch (EOFException e) {
+                throw new IOException("Truncated run file", e);
+            }
+            key = next;
+        }
+
+        /**
+         * Пропускает записи, меньшие заданного состояния.
+         *
+         * @param target состояние, до которого нужно дойти
+         * @return true, если текущая запись равна target
+         */
+        boolean seek(byte[] target) throws IOException {
+            while (key != null) {
+                int cmp = Arrays.compareUnsigned(key, target);
+                if (cmp == 0) {
+                    return true;
+                }
+                if (cmp > 0) {
+                    return false;
+                }
+                advance();
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Потоковое слияние нескольких файлов: выдаёт состояния по возрастанию,
+     * склеивая одинаковые и суммируя число путей. Открывает все файлы сразу,
+     * поэтому их количество должен ограничивать вызывающий.
+     */
+    static final class Merger implements Closeable {
+        private final List<Reader> readers = new ArrayList<>();
+        private final PriorityQueue<Reader> queue;
+        private byte[] key;
+        private long count;
+
+        Merger(List<Path> paths, int recordLength) throws IOException {
+            this.queue = new PriorityQueue<>(Math.max(1, paths.size()),
+                    (a, b) -> Arrays.compareUnsigned(a.key(), b.key()));
+            try {
+                for (Path path : paths) {
+                    Reader reader = new Reader(path, recordLength);
+                    readers.add(reader);
+                    if (reader.hasCurrent()) {
+                        queue.add(reader);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                for (Reader reader : readers) {
+                    closeQuietly(reader, e);
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Переходит к следующему состоянию.
+         *
+         * @return false, если состояния закончились
+         */
+        boolean next() throws IOException {
+            if (queue.isEmpty()) {
+                key = null;
+                return false;
+            }
+            Reader head = queue.poll();
+            key = head.key();
+            count = head.count();
+            advance(head);
+
+            while (!queue.isEmpty() && Arrays.equals(queue.peek().key(), key)) {
+                Reader same = queue.poll();
+                count = addCounts(count, same.count());
+                advance(same);
+            }
+            return true;
+        }
+
+        /** @return текущее состояние */
+        byte[] key() {
+            return key;
+        }
+
+        /** @return суммарное число путей текущего состояния */
+        long count() {
+            return count;
+        }
+
+        private void advance(Reader reader) throws IOException {
+            reader.advance();
+            if (reader.hasCurrent()) {
+                queue.add(reader);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeAll(readers);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.puzzle_solver;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Класс, представляющий состояние головоломки.
@@ -86,6 +87,94 @@ public class State {
         return nextStates;
     }
 
+    /**
+     * Возвращает все допустимые ходы из текущего состояния.
+     *
+     * @return список ходов с количеством переливаемых капель
+     */
+    public List<Move> getMoves() {
+        List<Move> moves = new ArrayList<>();
+
+        for (int i = 0; i < tubes.size(); i++) {
+            for (int j = 0; j < tubes.size(); j++) {
+                if (i == j)
+                    continue;
+
+                Tube from = tubes.get(i);
+                Tube to = tubes.get(j);
+
+                if (from.canPourInto(to)) {
+                    int free = to.getCapacity() - to.getDrops().size();
+                    moves.add(new Move(i, j, Math.min(from.countTopSameColor(), free)));
+                }
+            }
+        }
+
+        return moves;
+    }
+
+    /**
+     * Генерирует все состояния, из которых текущее получается одним допустимым
+     * ходом (обратные переливания).
+     *
+     * Ход из пробирки i в пробирку j переливает min(верхние капли i одного
+     * цвета, свободное место в j) капель. Поэтому для каждого количества a
+     * верхних капель пробирки j, возвращаемых в i, проверяется, что прямой ход
+     * из восстановленного состояния перелил бы ровно a капель.
+     *
+     * @return список предыдущих состояний
+     */
+    public List<State> getPreviousStates() {
+        List<State> previousStates = new ArrayList<>();
+
+        for (int j = 0; j < tubes.size(); j++) {
+            Tube to = tubes.get(j);
+            if (to.isEmpty())
+                continue;
+
+            int color = to.topColor();
+            int toSize = to.getDrops().size();
+            int toRun = to.countTopSameColor();
+
+            for (int i = 0; i < tubes.size(); i++) {
+                if (i == j)
+                    continue;
+
+                Tube from = tubes.get(i);
+                int fromSize = from.getDrops().size();
+                int fromRun = Objects.equals(from.topColor(), color) ? from.countTopSameColor() : 0;
+
+                for (int a = 1; a <= toRun && fromSize + a <= from.getCapacity(); a++) {
+                    // До хода под переливаемыми каплями в j был тот же цвет или дно
+                    if (a == toRun && a != toSize)
+                        continue;
+
+                    int sourceRun = fromRun + a;
+                    int targetFree = to.getCapacity() - (toSize - a);
+                    if (Math.min(sourceRun, targetFree) != a)
+                        continue;
+
+                    List<Tube> newTubes = new ArrayList<>();
+                    for (Tube tube : tubes) {
+                        newTubes.add(new Tube(tube));
+                    }
+
+                    List<Integer> fromDrops = from.getDrops();
+                    for (int k = 0; k < a; k++) {
+                        fromDrops.add(color);
+                    }
+                    List<Integer> toDrops = to.getDrops().subList(0, toSize - a);
+
+                    newTubes.set(i, new Tube(from.getCapacity(), fromDrops));
+                    newTubes.set(j, new Tube(to.getCapacity(), toDrops));
+                    previousStates.add(new State(newTubes));
+                }
+            }
+        }
+
+        return previousStates;
+    }
+
     /**
      * Применяет ход к текущему состоянию и возвращает новое состояние.
      * 
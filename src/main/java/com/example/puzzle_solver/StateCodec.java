@@ -0,0 +1,122 @@
+package com.example.puzzle_solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Упаковывает состояние головоломки в массив байт фиксированной длины и
+ * обратно.
+ *
+ * Каждой пробирке отводится столько байт, какова её вместимость: капли
+ * записываются снизу вверх, свободные места заполняются нулём. Набор
+ * пробирок и их вместимости берутся из шаблонного состояния, поэтому все
+ * состояния одного уровня кодируются записями одинаковой длины. Такие записи
+ * можно сравнивать побайтово (без знака) и хранить отсортированными на диске.
+ */
+public class StateCodec {
+    private final int[] capacities;
+    private final int recordLength;
+
+    /**
+     * Создаёт кодек для состояний с тем же набором пробирок, что и в шаблоне.
+     *
+     * @param template любое состояние уровня (обычно стартовое)
+     */
+    public StateCodec(State template) {
+        List<Tube> tubes = template.getTubes();
+        this.capacities = new int[tubes.size()];
+        int length = 0;
+        for (int i = 0; i < tubes.size(); i++) {
+            capacities[i] = tubes.get(i).getCapacity();
+            length += capacities[i];
+        }
+        this.recordLength = length;
+    }
+
+    /**
+     * Возвращает длину упакованного состояния в байтах.
+     *
+     * @return длина записи
+     */
+    public int recordLength() {
+        return recordLength;
+    }
+
+    /**
+     * Возвращает число пробирок в состоянии.
+     *
+     * @return число пробирок
+     */
+    public int tubeCount() {
+        return capacities.length;
+    }
+
+    /**
+     * Возвращает наибольшую вместимость пробирки.
+     *
+     * @return наибольшая вместимость
+     */
+    public int maxCapacity() {
+        int max = 0;
+        for (int capacity : capacities) {
+            max = Math.max(max, capacity);
+        }
+        return max;
+    }
+
+    /**
+     * Упаковывает состояние.
+     *
+     * @param state состояние с тем же набором пробирок, что и шаблон
+     * @return упакованное состояние
+     */
+    public byte[] encode(State state) {
+        List<Tube> tubes = state.getTubes();
+        if (tubes.size() != capacities.length) {
+            throw new IllegalArgumentException("Unexpected number of tubes: " + tubes.size());
+        }
+
+        byte[] packed = new byte[recordLength];
+        int offset = 0;
+        for (int i = 0; i < capacities.length; i++) {
+            Tube tube = tubes.get(i);
+            if (tube.getCapacity() != capacities[i]) {
+                throw new IllegalArgumentException("Unexpected capacity of tube " + i);
+            }
+            List<Integer> drops = tube.getDrops();
+            for (int k = 0; k < drops.size(); k++) {
+                int color = drops.get(k);
+                if (color < 1 || color > 255) {
+                    throw new IllegalArgumentException("Color out of range 1..255: " + color);
+                }
+                packed[offset + k] = (byte) color;
+            }
+            offset += capacities[i];
+        }
+        return packed;
+    }
+
+    /**
+     * Восстанавливает состояние из упакованного представления.
+     *
+     * @param packed упакованное состояние
+     * @return состояние головоломки
+     */
+    public State decode(byte[] packed) {
+        List<Tube> tubes = new ArrayList<>(capacities.length);
+        int offset = 0;
+        for (int capacity : capacities) {
+            List<Integer> drops = new ArrayList<>(capacity);
+            for (int k = 0; k < capacity; k++) {
+                int color = packed[offset + k] & 0xFF;
+                if (color == 0) {
+                    break; // дальше только свободные места
+                }
+                drops.add(color);
+            }
+            tubes.add(new Tube(capacity, drops));
+            offset += capacity;
+        }
+        return new State(tubes);
+    }
+}